@@ -1,19 +1,35 @@
 package top.jgroup;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
 import lombok.Setter;
 import okhttp3.*;
+import top.jgroup.cache.TrackCacheProvider;
 import top.jgroup.exceptions.OAuthTokenAbroadException;
 import top.jgroup.exceptions.TokenNotSetException;
 import top.jgroup.exceptions.YandexMusicException;
+import top.jgroup.helpers.ApiErrorHelper;
+import top.jgroup.helpers.JsonHelper;
+import top.jgroup.helpers.YnisonDispatcher;
 import top.jgroup.helpers.YnisonHelper;
 import top.jgroup.model.TrackInfo;
 
-import java.net.ProtocolException;
+import java.io.IOException;
 import java.net.Proxy;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * <p><b>Русский:</b></p>
@@ -125,10 +141,16 @@ import java.util.concurrent.TimeUnit;
  */
 public class YandexMusicClient {
 
-    private OkHttpClient client;
-    private final ObjectMapper mapper = new ObjectMapper();
+    public static final int BATCH_PARALLELISM = 4;
+
+    private static final String API_URL = "https://api.music.yandex.net";
+
+    private static final System.Logger LOGGER = System.getLogger(YandexMusicClient.class.getName());
+
+    private volatile OkHttpClient client;
 
     private @Setter String token;
+    private @Setter String apiUrl = API_URL;
     private @Setter boolean isOauth;
     private Proxy proxy;
 
@@ -136,6 +158,11 @@ public class YandexMusicClient {
     private @Setter String proxyPassword;
     private boolean proxyAuthRequired = false;
 
+    private @Getter YnisonDispatcher ynisonDispatcher = new YnisonDispatcher();
+    private @Getter @Setter TrackCacheProvider cacheProvider;
+    private @Getter @Setter Consumer<Throwable> cacheErrorHandler =
+            e -> LOGGER.log(System.Logger.Level.WARNING, "Ошибка кэша треков", e);
+
     public YandexMusicClient(String token, boolean isOauth, Proxy proxy,
                              boolean proxyAuthRequired, String proxyUser, String proxyPassword) {
         this.token = token;
@@ -144,7 +171,6 @@ public class YandexMusicClient {
         this.proxyAuthRequired = proxyAuthRequired;
         this.proxyUser = proxyUser;
         this.proxyPassword = proxyPassword;
-        initClient();
     }
 
     public YandexMusicClient(String token, boolean isOauth, Proxy proxy, String proxyUser, String proxyPassword) {
@@ -153,14 +179,12 @@ public class YandexMusicClient {
         this.proxy = proxy;
         this.proxyUser = proxyUser;
         this.proxyPassword = proxyPassword;
-        initClient();
     }
 
     public YandexMusicClient(String token, boolean isOauth, Proxy proxy) {
         this.token = token;
         this.isOauth = isOauth;
         this.proxy = proxy;
-        initClient();
     }
 
     public YandexMusicClient(String token, boolean isOauth) {
@@ -172,37 +196,62 @@ public class YandexMusicClient {
     }
 
     public YandexMusicClient() {
-        initClient();
     }
 
     public void setProxy(Proxy proxy) {
         this.proxy = proxy;
-        initClient();
+        resetClient();
     }
 
     public void setProxyAuthRequired(boolean proxyAuthRequired) {
         this.proxyAuthRequired = proxyAuthRequired;
-        initClient();
+        resetClient();
     }
 
-    private void initClient() {
-        OkHttpClient.Builder builder = new OkHttpClient.Builder();
-        if (proxy != null) {
-            builder.proxy(proxy);
-            builder.connectTimeout(5, TimeUnit.SECONDS);
-            builder.readTimeout(5, TimeUnit.SECONDS);
-            builder.writeTimeout(5, TimeUnit.SECONDS);
-
-            if (proxyAuthRequired) {
-                builder.proxyAuthenticator((route, response) -> {
-                    String credential = Credentials.basic(proxyUser, proxyPassword);
-                    return response.request().newBuilder()
-                            .header("Proxy-Authorization", credential)
-                            .build();
-                });
+    public void setYnisonDispatcher(YnisonDispatcher ynisonDispatcher) {
+        if (ynisonDispatcher == null) {
+            throw new IllegalArgumentException("ynisonDispatcher не может быть null");
+        }
+        this.ynisonDispatcher = ynisonDispatcher;
+    }
+
+    private synchronized void resetClient() {
+        this.client = null;
+    }
+
+    private OkHttpClient getClient() {
+        OkHttpClient result = client;
+        if (result == null) {
+            synchronized (this) {
+                result = client;
+                if (result == null) {
+                    result = buildClient();
+                    client = result;
+                }
             }
         }
-        this.client = builder.build();
+        return result;
+    }
+
+    private OkHttpClient buildClient() {
+        if (proxy == null) {
+            return SharedClient.INSTANCE;
+        }
+        OkHttpClient.Builder builder = SharedClient.INSTANCE.newBuilder();
+        builder.proxy(proxy);
+        builder.connectTimeout(5, TimeUnit.SECONDS);
+        builder.readTimeout(5, TimeUnit.SECONDS);
+        builder.writeTimeout(5, TimeUnit.SECONDS);
+
+        if (proxyAuthRequired) {
+            builder.proxyAuthenticator((route, response) -> {
+                String credential = Credentials.basic(proxyUser, proxyPassword);
+                return response.request().newBuilder()
+                        .header("Proxy-Authorization", credential)
+                        .build();
+            });
+        }
+        return builder.build();
     }
 
     private void checkToken() {
@@ -217,6 +266,8 @@ public class YandexMusicClient {
      * Возвращает {@link java.util.concurrent.CompletableFuture}, который завершится,
      * когда ID трека будет получен.
      * Если токен не установлен, будет выброшено исключение {@link TokenNotSetException}.
+     * Сообщения веб-сокета обрабатываются на executor'е {@link YnisonDispatcher},
+     * заданного через {@link #setYnisonDispatcher(YnisonDispatcher)}.
      * </p>
      *
      * <p><b>English:</b></p>
@@ -225,6 +276,8 @@ public class YandexMusicClient {
      * Returns a {@link java.util.concurrent.CompletableFuture} that completes
      * when the track ID is obtained.
      * If the token is not set, a {@link TokenNotSetException} will be thrown.
+     * Websocket messages are handled on the executor of the {@link YnisonDispatcher}
+     * set via {@link #setYnisonDispatcher(YnisonDispatcher)}.
      * </p>
      *
      * @return CompletableFuture с ID текущего трека / CompletableFuture with the current track ID
@@ -232,7 +285,7 @@ public class YandexMusicClient {
     public CompletableFuture<String> getCurrentTrackIdAsync() {
         checkToken();
 
-        return YnisonHelper.getCurrentTrackId(token, client, mapper);
+        return YnisonHelper.getCurrentTrackId(token, getClient(), ynisonDispatcher);
     }
 
     /**
@@ -273,6 +326,11 @@ public class YandexMusicClient {
      * Возвращает {@link java.util.concurrent.CompletableFuture}, который завершится,
      * когда необработанная информация о треке будет получена.
      * Если токен не установлен, будет выброшено исключение {@link TokenNotSetException}.
+     * Если задан {@link TrackCacheProvider}, трек сначала ищется в кэше,
+     * а полученный из API трек сохраняется в него.
+     * Ошибки кэша не прерывают запрос и передаются в {@link #setCacheErrorHandler(Consumer)}.
+     * При не-2xx ответе future завершается с {@link top.jgroup.exceptions.YandexMusicApiException},
+     * по которому можно понять, стоит ли повторять запрос.
      * </p>
      *
      * <p><b>English:</b></p>
@@ -281,6 +339,11 @@ public class YandexMusicClient {
      * Returns a {@link java.util.concurrent.CompletableFuture} that completes
      * when the raw track information is obtained.
      * If the token is not set, a {@link TokenNotSetException} will be thrown.
+     * If a {@link TrackCacheProvider} is set, the track is looked up in the cache first,
+     * and a track fetched from the API is stored in it.
+     * Cache errors do not fail the request and are passed to {@link #setCacheErrorHandler(Consumer)}.
+     * On a non-2xx response the future completes with a {@link top.jgroup.exceptions.YandexMusicApiException}
+     * that tells whether the request is worth retrying.
      * </p>
      *
      * @param trackId ID трека / Track ID
@@ -289,44 +352,200 @@ public class YandexMusicClient {
     public CompletableFuture<JsonNode> getTrackRawInfoAsync(String trackId) {
         checkToken();
 
+        TrackCacheProvider cache = cacheProvider;
+        if (cache == null) {
+            return fetchTrackRawInfoAsync(trackId);
+        }
+        return readCache(() -> cache.get(trackId), Optional.<JsonNode>empty())
+                .thenCompose(cached -> {
+                    if (cached.isPresent()) {
+                        return CompletableFuture.completedFuture(cached.get());
+                    }
+                    return fetchTrackRawInfoAsync(trackId).thenApply(node -> {
+                        writeCache(() -> cache.put(trackId, node));
+                        return node;
+                    });
+                });
+    }
+
+    /**
+     * <p><b>Русский:</b></p>
+     * <p>
+     * Асинхронно получает необработанную информацию о нескольких треках.
+     * Треки, найденные в {@link TrackCacheProvider}, не запрашиваются из API,
+     * остальные запрашиваются параллельно (не более {@value #BATCH_PARALLELISM} одновременно)
+     * и сохраняются в кэш одной операцией.
+     * Если хотя бы один запрос завершится ошибкой, завершится ошибкой и весь результат.
+     * </p>
+     *
+     * <p><b>English:</b></p>
+     * <p>
+     * Asynchronously gets raw information about several tracks.
+     * Tracks found in the {@link TrackCacheProvider} are not requested from the API,
+     * the rest are requested in parallel (at most {@value #BATCH_PARALLELISM} at a time)
+     * and stored in the cache in one operation.
+     * If any request fails, the whole result fails.
+     * </p>
+     *
+     * @param trackIds ID треков / Track IDs
+     * @return CompletableFuture с треками по ID в порядке запроса / CompletableFuture with tracks by ID in request order
+     */
+    public CompletableFuture<Map<String, JsonNode>> getTracksRawInfoAsync(Collection<String> trackIds) {
+        return getTracksRawInfoAsync(trackIds, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * <p><b>Русский:</b></p>
+     * <p>
+     * То же, что {@link #getTracksRawInfoAsync(Collection)}, но блокирующие HTTP запросы
+     * выполняются на указанном executor'е.
+     * </p>
+     *
+     * <p><b>English:</b></p>
+     * <p>
+     * Same as {@link #getTracksRawInfoAsync(Collection)}, but the blocking HTTP requests
+     * run on the given executor.
+     * </p>
+     *
+     * @param trackIds ID треков / Track IDs
+     * @param executor executor для HTTP запросов / executor for HTTP requests
+     * @return CompletableFuture с треками по ID в порядке запроса / CompletableFuture with tracks by ID in request order
+     */
+    public CompletableFuture<Map<String, JsonNode>> getTracksRawInfoAsync(Collection<String> trackIds, Executor executor) {
+        checkToken();
+
+        TrackCacheProvider cache = cacheProvider;
+        CompletableFuture<Map<String, JsonNode>> cached = cache == null
+                ? CompletableFuture.completedFuture(Map.of())
+                : readCache(() -> cache.getAll(trackIds), Map.<String, JsonNode>of());
+
+        return cached.thenCompose(hits -> {
+            List<String> misses = trackIds.stream()
+                    .filter(trackId -> !hits.containsKey(trackId))
+                    .distinct()
+                    .toList();
+
+            // Промахи делятся на BATCH_PARALLELISM последовательных цепочек, чтобы большой пакет не занял весь пул
+            Map<String, JsonNode> responses = new ConcurrentHashMap<>();
+            int lanes = Math.min(BATCH_PARALLELISM, misses.size());
+            CompletableFuture<?>[] chains = new CompletableFuture<?>[lanes];
+            for (int lane = 0; lane < lanes; lane++) {
+                CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+                for (int i = lane; i < misses.size(); i += lanes) {
+                    String trackId = misses.get(i);
+                    chain = chain.thenCompose(v -> fetchTrackRawInfoAsync(trackId, executor))
+                            .thenAccept(node -> responses.put(trackId, node));
+                }
+                chains[lane] = chain;
+            }
+
+            return CompletableFuture.allOf(chains).thenApply(v -> {
+                Map<String, JsonNode> fetched = new LinkedHashMap<>();
+                misses.forEach(trackId -> fetched.put(trackId, responses.get(trackId)));
+                if (cache != null && !fetched.isEmpty()) {
+                    writeCache(() -> cache.putAll(fetched));
+                }
+
+                Map<String, JsonNode> result = new LinkedHashMap<>();
+                for (String trackId : trackIds) {
+                    result.put(trackId, hits.containsKey(trackId) ? hits.get(trackId) : fetched.get(trackId));
+                }
+                return result;
+            });
+        });
+    }
+
+    private <T> CompletableFuture<T> readCache(Supplier<CompletableFuture<T>> call, T fallback) {
+        return callCache(call).exceptionally(e -> {
+            reportCacheError(e);
+            return fallback;
+        });
+    }
+
+    private void writeCache(Supplier<CompletableFuture<Void>> call) {
+        callCache(call).whenComplete((result, e) -> {
+            if (e != null) {
+                reportCacheError(e);
+            }
+        });
+    }
+
+    // Провайдер может выбросить исключение синхронно или вернуть null, приводим это к упавшему future
+    private static <T> CompletableFuture<T> callCache(Supplier<CompletableFuture<T>> call) {
+        try {
+            CompletableFuture<T> future = call.get();
+            if (future == null) {
+                return CompletableFuture.failedFuture(new YandexMusicException("TrackCacheProvider вернул null"));
+            }
+            return future;
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void reportCacheError(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        try {
+            cacheErrorHandler.accept(cause);
+        } catch (RuntimeException ignored) {
+            // Ошибка обработчика не должна ломать запрос
+        }
+    }
+
+    private CompletableFuture<JsonNode> fetchTrackRawInfoAsync(String trackId) {
+        return fetchTrackRawInfoAsync(trackId, ForkJoinPool.commonPool());
+    }
+
+    private CompletableFuture<JsonNode> fetchTrackRawInfoAsync(String trackId, Executor executor) {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 Request request = new Request.Builder()
-                        .url("https://api.music.yandex.net/tracks/" + trackId)
+                        .url(apiUrl + "/tracks/" + trackId)
                         .header("Authorization", "OAuth " + token)
                         .header("Accept", "application/json")
                         .build();
 
-                try (Response response = client.newCall(request).execute()) {
+                try (Response response = getClient().newCall(request).execute()) {
 
                     if (!response.isSuccessful()) {
-
-                        String errorBody = response.body().string();
-                        if (isOauth && !errorBody.isBlank() && errorBody.contains("Unavailable For Legal Reasons")) {
-                            throw new OAuthTokenAbroadException(
-                                    "Доступ к ресурсу ограничен по юридическим причинам (Unavailable For Legal Reasons)."
-                            );
-                        }
-
-                        throw new ProtocolException("Ошибка при получении информации о треке: HTTP " + response.code());
+                        throw ApiErrorHelper.toException(response, isOauth, "Ошибка при получении информации о треке");
                     }
 
-                    String responseString = response.body().string();
-                    JsonNode jsonString = mapper.readTree(responseString);
-                    JsonNode node = jsonString.path("result").get(0);
+                    JsonNode root = JsonHelper.TREE_READER.readTree(response.body().byteStream());
+                    JsonNode node = root.path("result").get(0);
                     if (node == null || node.isMissingNode())
                         throw new YandexMusicException("Трек не найден в JSON");
 
                     return node;
                 }
+            } catch (YandexMusicException | OAuthTokenAbroadException e) {
+                throw e;
+            } catch (JsonProcessingException e) {
+                throw new YandexMusicException("Ошибка при получении информации о треке", e);
+            } catch (IOException e) {
+                throw ApiErrorHelper.networkException(e, "Ошибка сети при получении информации о треке");
             } catch (Exception e) {
-                if (e instanceof OAuthTokenAbroadException) {
-                    throw (OAuthTokenAbroadException) e;
-                }
                 throw new YandexMusicException("Ошибка при получении информации о треке", e);
             }
-        });
+        }, executor);
     }
 
+    /**
+     * <p><b>Русский:</b></p>
+     * <p>
+     * Общий {@link OkHttpClient}, создается при первом запросе.
+     * Клиенты с прокси получают его копию через {@link OkHttpClient#newBuilder()},
+     * разделяя пул соединений и потоки.
+     * </p>
+     *
+     * <p><b>English:</b></p>
+     * <p>
+     * Shared {@link OkHttpClient}, created on the first request.
+     * Clients with a proxy derive from it via {@link OkHttpClient#newBuilder()},
+     * sharing its connection pool and threads.
+     * </p>
+     */
+    private static final class SharedClient {
+        private static final OkHttpClient INSTANCE = new OkHttpClient();
+    }
 }
-
@@ -0,0 +1,178 @@
+package top.jgroup.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import top.jgroup.exceptions.YandexMusicException;
+import top.jgroup.helpers.JsonHelper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * <p><b>Русский:</b></p>
+ * <p>
+ * Кэш треков в каталоге: по одному JSON файлу на трек.
+ * Если каталог общий (например, сетевой диск), кэш разделяется всеми узлами.
+ * Запись идет через временный файл и атомарное переименование ({@code ATOMIC_MOVE}),
+ * поэтому читатели не видят частично записанных файлов.
+ * Некоторые сетевые файловые системы не поддерживают атомарное переименование:
+ * тогда каждая запись завершается ошибкой и попадает в обработчик ошибок кэша клиента,
+ * а кэш работает только на чтение.
+ * </p>
+ * <p>
+ * Срок жизни записи отсчитывается от времени изменения файла. Устаревшие файлы
+ * удаляются при чтении, а {@link #purgeExpired()} удаляет их во всем каталоге.
+ * Файловый ввод-вывод блокирующий, поэтому executor передается явно,
+ * чтобы не занимать общий пул, в котором выполняются HTTP запросы клиента.
+ * </p>
+ *
+ * <p><b>English:</b></p>
+ * <p>
+ * Directory-backed track cache: one JSON file per track.
+ * If the directory is shared (e.g. a network drive), the cache is shared by all nodes.
+ * Writes go through a temporary file and an atomic rename ({@code ATOMIC_MOVE}),
+ * so readers never see partially written files.
+ * Some network filesystems do not support atomic renames:
+ * then every write fails and goes to the client's cache error handler,
+ * and the cache is effectively read-only.
+ * </p>
+ * <p>
+ * Entry age is measured from the file's modification time. Expired files
+ * are deleted on read, and {@link #purgeExpired()} deletes them across the directory.
+ * File I/O is blocking, so the executor is passed explicitly
+ * to keep it off the shared pool that runs the client's HTTP requests.
+ * </p>
+ */
+public class FileTrackCacheProvider implements TrackCacheProvider {
+
+    private static final String SUFFIX = ".json";
+
+    private final Path directory;
+    private final Duration ttl;
+    private final Executor executor;
+
+    /**
+     * @param directory каталог кэша / cache directory
+     * @param ttl       срок жизни записи, {@code null} — без ограничения / entry time to live, {@code null} for unlimited
+     * @param executor  executor для файлового ввода-вывода / executor for file I/O
+     */
+    public FileTrackCacheProvider(Path directory, Duration ttl, Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor не может быть null");
+        }
+        if (ttl != null && (ttl.isNegative() || ttl.isZero())) {
+            throw new IllegalArgumentException("ttl должен быть положительным");
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new YandexMusicException("Не удалось создать каталог кэша: " + directory, e);
+        }
+        this.directory = directory;
+        this.ttl = ttl;
+        this.executor = executor;
+    }
+
+    public FileTrackCacheProvider(Path directory, Executor executor) {
+        this(directory, null, executor);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, JsonNode>> getAll(Collection<String> trackIds) {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<String, JsonNode> result = new HashMap<>();
+            for (String trackId : trackIds) {
+                Path file = fileOf(trackId);
+                try {
+                    if (isExpired(file, Instant.now())) {
+                        Files.deleteIfExists(file);
+                        continue;
+                    }
+                    try (InputStream input = Files.newInputStream(file)) {
+                        result.put(trackId, JsonHelper.TREE_READER.readTree(input));
+                    }
+                } catch (NoSuchFileException e) {
+                    // Трека нет в кэше
+                } catch (IOException e) {
+                    throw new YandexMusicException("Ошибка чтения кэша трека " + trackId, e);
+                }
+            }
+            return result;
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> putAll(Map<String, JsonNode> tracks) {
+        return CompletableFuture.runAsync(() -> {
+            for (Map.Entry<String, JsonNode> entry : tracks.entrySet()) {
+                try {
+                    Path temp = Files.createTempFile(directory, "track", ".tmp");
+                    try {
+                        Files.write(temp, JsonHelper.WRITER.writeValueAsBytes(entry.getValue()));
+                        Files.move(temp, fileOf(entry.getKey()),
+                                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    } finally {
+                        Files.deleteIfExists(temp);
+                    }
+                } catch (IOException e) {
+                    throw new YandexMusicException("Ошибка записи кэша трека " + entry.getKey(), e);
+                }
+            }
+        }, executor);
+    }
+
+    /**
+     * <p><b>Русский:</b> Удаляет из каталога все устаревшие записи. Без срока жизни ничего не делает.</p>
+     * <p><b>English:</b> Deletes all expired entries from the directory. Does nothing without a time to live.</p>
+     *
+     * @return CompletableFuture с числом удаленных файлов / CompletableFuture with the number of deleted files
+     */
+    public CompletableFuture<Integer> purgeExpired() {
+        return CompletableFuture.supplyAsync(() -> {
+            if (ttl == null) {
+                return 0;
+            }
+            Instant now = Instant.now();
+            int deleted = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                for (Path file : files) {
+                    try {
+                        if (isExpired(file, now) && Files.deleteIfExists(file)) {
+                            deleted++;
+                        }
+                    } catch (NoSuchFileException e) {
+                        // Файл уже удален другим узлом
+                    }
+                }
+            } catch (IOException e) {
+                throw new YandexMusicException("Ошибка очистки кэша " + directory, e);
+            }
+            return deleted;
+        }, executor);
+    }
+
+    private boolean isExpired(Path file, Instant now) throws IOException {
+        if (ttl == null) {
+            return false;
+        }
+        Instant modified = Files.getLastModifiedTime(file).toInstant();
+        return modified.plus(ttl).isBefore(now);
+    }
+
+    private Path fileOf(String trackId) {
+        return directory.resolve(URLEncoder.encode(trackId, StandardCharsets.UTF_8) + SUFFIX);
+    }
+}
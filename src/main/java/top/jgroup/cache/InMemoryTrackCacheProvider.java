@@ -0,0 +1,115 @@
+package top.jgroup.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p><b>Русский:</b></p>
+ * <p>
+ * Кэш треков в памяти процесса. Эталонная реализация {@link TrackCacheProvider},
+ * один экземпляр может использоваться несколькими клиентами.
+ * Размер ограничен (вытесняются давно не использованные треки), записи могут иметь срок жизни.
+ * В кэше хранятся копии узлов, поэтому изменение возвращенного узла не меняет кэш.
+ * </p>
+ *
+ * <p><b>English:</b></p>
+ * <p>
+ * In-process track cache. Reference implementation of {@link TrackCacheProvider},
+ * a single instance may be shared by several clients.
+ * The size is bounded (least recently used tracks are evicted), entries may have a time to live.
+ * The cache holds copies of the nodes, so modifying a returned node does not change the cache.
+ * </p>
+ */
+public class InMemoryTrackCacheProvider implements TrackCacheProvider {
+
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> tracks;
+
+    /**
+     * @param maxSize максимальное число треков / maximum number of tracks
+     * @param ttl     срок жизни записи, {@code null} — без ограничения / entry time to live, {@code null} for unlimited
+     */
+    public InMemoryTrackCacheProvider(int maxSize, Duration ttl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize должен быть больше 0");
+        }
+        if (ttl != null && (ttl.isNegative() || ttl.isZero())) {
+            throw new IllegalArgumentException("ttl должен быть положительным");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl == null ? 0 : ttl.toNanos();
+        this.tracks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > InMemoryTrackCacheProvider.this.maxSize;
+            }
+        };
+    }
+
+    public InMemoryTrackCacheProvider(int maxSize) {
+        this(maxSize, null);
+    }
+
+    public InMemoryTrackCacheProvider() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, JsonNode>> getAll(Collection<String> trackIds) {
+        Map<String, JsonNode> result = new HashMap<>();
+        long now = System.nanoTime();
+        synchronized (tracks) {
+            for (String trackId : trackIds) {
+                Entry entry = tracks.get(trackId);
+                if (entry == null) {
+                    continue;
+                }
+                if (entry.isExpired(now)) {
+                    tracks.remove(trackId);
+                    continue;
+                }
+                result.put(trackId, entry.track());
+            }
+        }
+        result.replaceAll((trackId, track) -> track.deepCopy());
+        return CompletableFuture.completedFuture(result);
+    }
+
+    @Override
+    public CompletableFuture<Void> putAll(Map<String, JsonNode> tracks) {
+        long expiresAt = ttlNanos == 0 ? 0 : System.nanoTime() + ttlNanos;
+        Map<String, Entry> copies = new HashMap<>();
+        tracks.forEach((trackId, track) -> copies.put(trackId, new Entry(track.deepCopy(), expiresAt)));
+        synchronized (this.tracks) {
+            this.tracks.putAll(copies);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    public int size() {
+        synchronized (tracks) {
+            return tracks.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (tracks) {
+            tracks.clear();
+        }
+    }
+
+    private record Entry(JsonNode track, long expiresAt) {
+        boolean isExpired(long now) {
+            return expiresAt != 0 && now - expiresAt >= 0;
+        }
+    }
+}
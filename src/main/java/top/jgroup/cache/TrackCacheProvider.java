@@ -0,0 +1,57 @@
+package top.jgroup.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p><b>Русский:</b></p>
+ * <p>
+ * Внешний кэш необработанной информации о треках.
+ * {@link top.jgroup.YandexMusicClient} обращается к нему перед запросом к API
+ * и сохраняет в него полученные треки. Реализация может быть общей для нескольких
+ * экземпляров сервиса, тогда трек, полученный одним узлом, не запрашивается остальными.
+ * Ошибки кэша не прерывают запрос, клиент в этом случае идет в сеть.
+ * </p>
+ *
+ * <p><b>English:</b></p>
+ * <p>
+ * External cache of raw track information.
+ * {@link top.jgroup.YandexMusicClient} consults it before calling the API
+ * and stores fetched tracks in it. An implementation may be shared by several
+ * service instances, so a track fetched by one node is not requested by the others.
+ * Cache errors do not fail the request, the client falls back to the network.
+ * </p>
+ */
+public interface TrackCacheProvider {
+
+    /**
+     * <p><b>Русский:</b> Возвращает закэшированные треки. Отсутствующих ID в результате нет.</p>
+     * <p><b>English:</b> Returns cached tracks. Missing IDs are absent from the result.</p>
+     *
+     * @param trackIds ID треков / Track IDs
+     * @return CompletableFuture с найденными треками / CompletableFuture with the found tracks
+     */
+    CompletableFuture<Map<String, JsonNode>> getAll(Collection<String> trackIds);
+
+    /**
+     * <p><b>Русский:</b> Сохраняет треки в кэш.</p>
+     * <p><b>English:</b> Stores tracks in the cache.</p>
+     *
+     * @param tracks треки по ID / Tracks by ID
+     * @return CompletableFuture, завершающийся после записи / CompletableFuture completed once written
+     */
+    CompletableFuture<Void> putAll(Map<String, JsonNode> tracks);
+
+    default CompletableFuture<Optional<JsonNode>> get(String trackId) {
+        return getAll(List.of(trackId)).thenApply(tracks -> Optional.ofNullable(tracks.get(trackId)));
+    }
+
+    default CompletableFuture<Void> put(String trackId, JsonNode track) {
+        return putAll(Map.of(trackId, track));
+    }
+}
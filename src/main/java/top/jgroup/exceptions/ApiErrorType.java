@@ -0,0 +1,61 @@
+package top.jgroup.exceptions;
+
+import lombok.Getter;
+
+/**
+ * <p><b>Русский:</b></p>
+ * <p>
+ * Тип ошибки API, определяемый по HTTP статусу
+ * ({@link #NETWORK} — ошибка сети, ответ не получен).
+ * Для каждого типа известно, имеет ли смысл повторять запрос
+ * и нужен ли стек вызовов (для ожидаемых ошибок он не собирается).
+ * </p>
+ *
+ * <p><b>English:</b></p>
+ * <p>
+ * API error type, derived from the HTTP status
+ * ({@link #NETWORK} is a transport failure, no response was received).
+ * Each type tells whether the request is worth retrying
+ * and whether a stack trace is needed (it is not captured for expected errors).
+ * </p>
+ */
+@Getter
+public enum ApiErrorType {
+    BAD_REQUEST(false, true),
+    UNAUTHORIZED(false, true),
+    FORBIDDEN(false, true),
+    NOT_FOUND(false, false),
+    TIMEOUT(true, false),
+    RATE_LIMITED(true, false),
+    UNAVAILABLE_FOR_LEGAL_REASONS(false, false),
+    CLIENT_ERROR(false, true),
+    SERVER_ERROR(true, true),
+    UNEXPECTED_STATUS(false, true),
+    NETWORK(true, false);
+
+    private final boolean retryable;
+    private final boolean stackTraceCaptured;
+
+    ApiErrorType(boolean retryable, boolean stackTraceCaptured) {
+        this.retryable = retryable;
+        this.stackTraceCaptured = stackTraceCaptured;
+    }
+
+    public static ApiErrorType fromStatus(int statusCode) {
+        return switch (statusCode) {
+            case 400 -> BAD_REQUEST;
+            case 401 -> UNAUTHORIZED;
+            case 403 -> FORBIDDEN;
+            case 404 -> NOT_FOUND;
+            case 408 -> TIMEOUT;
+            case 429 -> RATE_LIMITED;
+            case 451 -> UNAVAILABLE_FOR_LEGAL_REASONS;
+            default -> {
+                if (statusCode >= 500) {
+                    yield SERVER_ERROR;
+                }
+                yield statusCode >= 400 ? CLIENT_ERROR : UNEXPECTED_STATUS;
+            }
+        };
+    }
+}
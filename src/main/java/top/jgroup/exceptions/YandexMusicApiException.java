@@ -0,0 +1,47 @@
+package top.jgroup.exceptions;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * <p><b>Русский:</b></p>
+ * <p>
+ * Ошибка, возвращенная API (не-2xx ответ), или ошибка сети ({@link ApiErrorType#NETWORK}, статус 0).
+ * Содержит HTTP статус, {@link ApiErrorType}, код ошибки API (если тело ответа читалось)
+ * и рекомендуемую задержку перед повтором из заголовка {@code Retry-After}.
+ * </p>
+ *
+ * <p><b>English:</b></p>
+ * <p>
+ * Error returned by the API (non-2xx response), or a transport failure ({@link ApiErrorType#NETWORK}, status 0).
+ * Holds the HTTP status, {@link ApiErrorType}, the API error code (if the response body was read)
+ * and the suggested retry delay from the {@code Retry-After} header.
+ * </p>
+ */
+@Getter
+public class YandexMusicApiException extends YandexMusicException {
+
+    private final int statusCode;
+    private final ApiErrorType type;
+    private final String errorCode;
+    private final Duration retryAfter;
+
+    public YandexMusicApiException(String message, int statusCode, ApiErrorType type,
+                                   String errorCode, Duration retryAfter) {
+        this(message, null, statusCode, type, errorCode, retryAfter);
+    }
+
+    public YandexMusicApiException(String message, Throwable cause, int statusCode, ApiErrorType type,
+                                   String errorCode, Duration retryAfter) {
+        super(message, cause, type.isStackTraceCaptured());
+        this.statusCode = statusCode;
+        this.type = type;
+        this.errorCode = errorCode;
+        this.retryAfter = retryAfter;
+    }
+
+    public boolean isRetryable() {
+        return type.isRetryable();
+    }
+}
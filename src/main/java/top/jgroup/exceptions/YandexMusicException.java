@@ -8,5 +8,8 @@ public class YandexMusicException extends RuntimeException {
     public YandexMusicException(String message, Throwable cause) {
         super(message, cause);
     }
-}
 
+    protected YandexMusicException(String message, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, true, writableStackTrace);
+    }
+}
@@ -0,0 +1,107 @@
+package top.jgroup.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import okhttp3.Response;
+import top.jgroup.exceptions.ApiErrorType;
+import top.jgroup.exceptions.OAuthTokenAbroadException;
+import top.jgroup.exceptions.YandexMusicApiException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * <p><b>Русский:</b></p>
+ * <p>
+ * Преобразует не-2xx ответ API в исключение. Тип ошибки и задержка повтора
+ * определяются по статусу и заголовкам; тело ответа читается (не более
+ * {@value #MAX_ERROR_BODY_BYTES} байт) только для ошибок, которые нельзя
+ * классифицировать по статусу. Ошибки сети превращаются в {@link ApiErrorType#NETWORK}.
+ * </p>
+ *
+ * <p><b>English:</b></p>
+ * <p>
+ * Converts a non-2xx API response into an exception. The error type and retry delay
+ * are derived from the status and headers; the body is read (at most
+ * {@value #MAX_ERROR_BODY_BYTES} bytes) only for errors the status cannot classify.
+ * Transport failures become {@link ApiErrorType#NETWORK}.
+ * </p>
+ */
+public final class ApiErrorHelper {
+
+    public static final int MAX_ERROR_BODY_BYTES = 4096;
+
+    private static final String LEGAL_REASONS = "Unavailable For Legal Reasons";
+
+    private ApiErrorHelper() {
+    }
+
+    public static RuntimeException toException(Response response, boolean isOauth, String message) {
+        int statusCode = response.code();
+        ApiErrorType type = ApiErrorType.fromStatus(statusCode);
+        String errorCode = null;
+
+        if (type == ApiErrorType.BAD_REQUEST || type == ApiErrorType.FORBIDDEN || type == ApiErrorType.CLIENT_ERROR) {
+            String errorBody = peekBody(response);
+            if (errorBody.contains(LEGAL_REASONS)) {
+                type = ApiErrorType.UNAVAILABLE_FOR_LEGAL_REASONS;
+            }
+            errorCode = parseErrorCode(errorBody);
+        }
+
+        if (isOauth && type == ApiErrorType.UNAVAILABLE_FOR_LEGAL_REASONS) {
+            return new OAuthTokenAbroadException(
+                    "Доступ к ресурсу ограничен по юридическим причинам (Unavailable For Legal Reasons)."
+            );
+        }
+
+        return new YandexMusicApiException(message + ": HTTP " + statusCode, statusCode, type,
+                errorCode, parseRetryAfter(response));
+    }
+
+    public static YandexMusicApiException networkException(IOException cause, String message) {
+        return new YandexMusicApiException(message + ": " + cause, cause, 0, ApiErrorType.NETWORK, null, null);
+    }
+
+    private static String peekBody(Response response) {
+        try {
+            return response.peekBody(MAX_ERROR_BODY_BYTES).string();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static String parseErrorCode(String errorBody) {
+        if (errorBody.isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode error = JsonHelper.TREE_READER.readTree(errorBody).path("error");
+            if (error.isTextual()) {
+                return error.asText();
+            }
+            return error.path("name").asText(null);
+        } catch (IOException e) {
+            // Не JSON или тело обрезано
+            return null;
+        }
+    }
+
+    private static Duration parseRetryAfter(Response response) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            Date date = response.headers().getDate("Retry-After");
+            if (date == null) {
+                return null;
+            }
+            Duration delay = Duration.between(Instant.now(), date.toInstant());
+            return delay.isNegative() ? Duration.ZERO : delay;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package top.jgroup.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * <p><b>Русский:</b></p>
+ * <p>
+ * Общие компоненты Jackson, создаются один раз и используются всеми клиентами.
+ * Наружу отдаются только неизменяемые {@link ObjectReader} и {@link ObjectWriter},
+ * поэтому настройки разбора нельзя поменять из пользовательского кода.
+ * </p>
+ *
+ * <p><b>English:</b></p>
+ * <p>
+ * Shared Jackson components, created once and used by all clients.
+ * Only the immutable {@link ObjectReader} and {@link ObjectWriter} are exposed,
+ * so user code cannot change parsing settings.
+ * </p>
+ */
+public final class JsonHelper {
+
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static final ObjectReader TREE_READER = MAPPER.readerFor(JsonNode.class);
+
+    public static final ObjectWriter WRITER = MAPPER.writer();
+
+    private JsonHelper() {
+    }
+}
@@ -0,0 +1,400 @@
+package top.jgroup.helpers;
+
+import lombok.Getter;
+import top.jgroup.exceptions.YandexMusicException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * <p><b>Русский:</b></p>
+ * <p>
+ * Диспетчер сообщений Ynison. Поток чтения OkHttp только кладет текст сообщения
+ * в ограниченный кольцевой буфер подписчика, а разбор JSON и обработчики
+ * выполняются на указанном {@link Executor}. Поведение при переполнении буфера
+ * задается {@link OverflowPolicy}, для каждого подписчика доступны метрики отставания.
+ * </p>
+ *
+ * <p><b>English:</b></p>
+ * <p>
+ * Ynison message dispatcher. The OkHttp reader thread only puts the message text
+ * into the subscriber's bounded ring buffer, while JSON parsing and handlers
+ * run on the given {@link Executor}. Buffer overflow behaviour is set by
+ * {@link OverflowPolicy}, and lag metrics are available for every subscriber.
+ * </p>
+ */
+public class YnisonDispatcher {
+
+    /**
+     * <p><b>Русский:</b> Поведение при заполненном буфере подписчика.</p>
+     * <p><b>English:</b> Behaviour when a subscriber's buffer is full.</p>
+     */
+    public enum OverflowPolicy {
+        /** Отбросить самое старое сообщение / Drop the oldest pending message. */
+        DROP_OLDEST,
+        /** Хранить только последнее состояние / Keep only the latest state. */
+        LATEST,
+        /** Блокировать поток чтения до освобождения места / Block the reader thread until there is room. */
+        BLOCK
+    }
+
+    private final @Getter Executor executor;
+    private final @Getter int capacity;
+    private final @Getter OverflowPolicy policy;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public YnisonDispatcher(Executor executor, int capacity, OverflowPolicy policy) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor не может быть null");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity должна быть больше 0");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("policy не может быть null");
+        }
+        this.executor = executor;
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    public YnisonDispatcher(Executor executor) {
+        this(executor, 16, OverflowPolicy.LATEST);
+    }
+
+    public YnisonDispatcher() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * <p><b>Русский:</b></p>
+     * <p>
+     * Регистрирует обработчик сообщений. Сообщения одного подписчика обрабатываются
+     * последовательно, в порядке поступления.
+     * </p>
+     *
+     * <p><b>English:</b></p>
+     * <p>
+     * Registers a message handler. Messages of a single subscriber are handled
+     * sequentially, in arrival order.
+     * </p>
+     *
+     * @param handler обработчик сообщений / message handler
+     * @return подписчик / subscriber
+     */
+    public Subscriber subscribe(Consumer<String> handler) {
+        Subscriber subscriber = new Subscriber(handler);
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    /**
+     * <p><b>Русский:</b> Возвращает снимок активных подписчиков для чтения метрик.</p>
+     * <p><b>English:</b> Returns a snapshot of active subscribers for reading metrics.</p>
+     *
+     * @return список подписчиков / list of subscribers
+     */
+    public List<Subscriber> getSubscribers() {
+        return new ArrayList<>(subscribers);
+    }
+
+    public final class Subscriber implements AutoCloseable {
+
+        private final Consumer<String> handler;
+
+        private final Object lock = new Object();
+        private final String[] messages = new String[capacity];
+        private final long[] enqueuedAt = new long[capacity];
+        private int head;
+        private int size;
+        private boolean draining;
+        private boolean closed;
+        private boolean finishing;
+        private Runnable onFinished;
+
+        private volatile long delivered;
+        private volatile long dropped;
+        private volatile long failed;
+        private volatile long maxLagNanos;
+        private volatile Throwable lastFailure;
+
+        private Subscriber(Consumer<String> handler) {
+            this.handler = handler;
+        }
+
+        /**
+         * <p><b>Русский:</b></p>
+         * <p>
+         * Кладет сообщение в буфер и при необходимости планирует его обработку.
+         * Вызывается из потока чтения веб-сокета.
+         * </p>
+         *
+         * <p><b>English:</b></p>
+         * <p>
+         * Puts a message into the buffer and schedules draining if needed.
+         * Called from the websocket reader thread.
+         * </p>
+         *
+         * @param message текст сообщения / message text
+         */
+        public void offer(String message) {
+            boolean schedule;
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+                if (size == capacity || (policy == OverflowPolicy.LATEST && size > 0)) {
+                    switch (policy) {
+                        case DROP_OLDEST -> {
+                            poll();
+                            dropped++;
+                        }
+                        case LATEST -> {
+                            dropped += size;
+                            clear();
+                        }
+                        case BLOCK -> {
+                            awaitSpace();
+                            if (closed) {
+                                return;
+                            }
+                        }
+                    }
+                }
+                int tail = (head + size) % capacity;
+                messages[tail] = message;
+                enqueuedAt[tail] = System.nanoTime();
+                size++;
+                schedule = !draining;
+                draining = true;
+            }
+            if (schedule) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    synchronized (lock) {
+                        draining = false;
+                    }
+                    throw new YandexMusicException("Executor отклонил обработку сообщения Ynison", e);
+                }
+            }
+        }
+
+        /**
+         * <p><b>Русский:</b> Количество сообщений, ожидающих обработки.</p>
+         * <p><b>English:</b> Number of messages waiting to be handled.</p>
+         *
+         * @return размер очереди / queue size
+         */
+        public int getPending() {
+            synchronized (lock) {
+                return size;
+            }
+        }
+
+        /**
+         * <p><b>Русский:</b> Возраст самого старого необработанного сообщения.</p>
+         * <p><b>English:</b> Age of the oldest pending message.</p>
+         *
+         * @return отставание в миллисекундах / lag in milliseconds
+         */
+        public long getLagMillis() {
+            synchronized (lock) {
+                if (size == 0) {
+                    return 0;
+                }
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enqueuedAt[head]);
+            }
+        }
+
+        /**
+         * <p><b>Русский:</b> Максимальное наблюдавшееся время ожидания сообщения в буфере.</p>
+         * <p><b>English:</b> Maximum observed time a message spent in the buffer.</p>
+         *
+         * @return отставание в миллисекундах / lag in milliseconds
+         */
+        public long getMaxLagMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxLagNanos);
+        }
+
+        public long getDelivered() {
+            return delivered;
+        }
+
+        public long getDropped() {
+            return dropped;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * <p><b>Русский:</b> Последнее исключение, выброшенное обработчиком, или {@code null}.</p>
+         * <p><b>English:</b> The last exception thrown by the handler, or {@code null}.</p>
+         *
+         * @return исключение обработчика / handler exception
+         */
+        public Throwable getLastFailure() {
+            return lastFailure;
+        }
+
+        /**
+         * <p><b>Русский:</b></p>
+         * <p>
+         * Сообщает, что новых сообщений не будет (соединение закрыто).
+         * Подписчик закрывается после обработки уже принятых сообщений,
+         * затем вызывается {@code onFinished}. Повторные вызовы игнорируются.
+         * </p>
+         *
+         * <p><b>English:</b></p>
+         * <p>
+         * Signals that no more messages will arrive (the connection is closed).
+         * The subscriber is closed once already accepted messages are handled,
+         * then {@code onFinished} is called. Repeated calls are ignored.
+         * </p>
+         *
+         * @param onFinished действие после закрытия / action after closing
+         */
+        public void finish(Runnable onFinished) {
+            boolean finishNow;
+            synchronized (lock) {
+                if (finishing) {
+                    return;
+                }
+                finishing = true;
+                this.onFinished = onFinished;
+                finishNow = closed || (!draining && size == 0);
+            }
+            if (finishNow) {
+                completeFinish();
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (lock) {
+                closed = true;
+                clear();
+                lock.notifyAll();
+            }
+            subscribers.remove(this);
+        }
+
+        private void drain() {
+            while (true) {
+                String message;
+                long lag;
+                synchronized (lock) {
+                    if (closed || size == 0) {
+                        draining = false;
+                        break;
+                    }
+                    lag = System.nanoTime() - enqueuedAt[head];
+                    message = poll();
+                    lock.notifyAll();
+                }
+                if (lag > maxLagNanos) {
+                    maxLagNanos = lag;
+                }
+                try {
+                    handler.accept(message);
+                    delivered++;
+                } catch (Throwable t) {
+                    failed++;
+                    lastFailure = t;
+                    if (t instanceof Error error) {
+                        // Освобождаем очередь до выхода, иначе подписчик больше не будет обслуживаться
+                        restartDrain();
+                        throw error;
+                    }
+                }
+            }
+            finishIfRequested();
+        }
+
+        private void restartDrain() {
+            synchronized (lock) {
+                if (closed || size == 0) {
+                    draining = false;
+                }
+            }
+            if (!isDraining()) {
+                finishIfRequested();
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                synchronized (lock) {
+                    draining = false;
+                    lock.notifyAll();
+                }
+            }
+        }
+
+        private boolean isDraining() {
+            synchronized (lock) {
+                return draining;
+            }
+        }
+
+        private void finishIfRequested() {
+            boolean finishNow;
+            synchronized (lock) {
+                finishNow = finishing && !draining;
+            }
+            if (finishNow) {
+                completeFinish();
+            }
+        }
+
+        private void completeFinish() {
+            close();
+            Runnable callback;
+            synchronized (lock) {
+                callback = onFinished;
+                onFinished = null;
+            }
+            if (callback != null) {
+                callback.run();
+            }
+        }
+
+        private void awaitSpace() {
+            boolean interrupted = false;
+            while (size == capacity && !closed) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private String poll() {
+            String message = messages[head];
+            messages[head] = null;
+            head = (head + 1) % capacity;
+            size--;
+            return message;
+        }
+
+        private void clear() {
+            while (size > 0) {
+                poll();
+            }
+        }
+    }
+}
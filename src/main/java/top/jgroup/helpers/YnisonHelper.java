@@ -13,6 +13,15 @@ public class YnisonHelper {
     private static final String REDIRECT_WS = "wss://ynison.music.yandex.ru/redirector.YnisonRedirectService/GetRedirectToYnison";
 
     public static CompletableFuture<String> getCurrentTrackId(String token, OkHttpClient client, ObjectMapper mapper) {
+        return getCurrentTrackId(token, client, mapper, new YnisonDispatcher());
+    }
+
+    public static CompletableFuture<String> getCurrentTrackId(String token, OkHttpClient client, YnisonDispatcher dispatcher) {
+        return getCurrentTrackId(token, client, JsonHelper.MAPPER, dispatcher);
+    }
+
+    public static CompletableFuture<String> getCurrentTrackId(String token, OkHttpClient client, ObjectMapper mapper,
+                                                              YnisonDispatcher dispatcher) {
         String deviceId = generateDeviceId();
 
         Map<String, Object> deviceInfo = Map.of(
@@ -28,7 +37,7 @@ public class YnisonHelper {
             return CompletableFuture.failedFuture(new YandexMusicException("Ошибка сериализации deviceInfo", e));
         }
 
-        return getRedirect(token, client, mapper, wsProto)
+        return getRedirect(token, client, mapper, dispatcher, wsProto)
                 .thenCompose(redirectData -> {
                     String host = (String) redirectData.get("host");
                     String redirectTicket = (String) redirectData.get("redirect_ticket");
@@ -45,12 +54,35 @@ public class YnisonHelper {
                     CompletableFuture<String> future = new CompletableFuture<>();
 
                     client.newWebSocket(request, new WebSocketListener() {
+                        private YnisonDispatcher.Subscriber subscriber;
+
                         @Override
                         public void onOpen(@NotNull WebSocket webSocket, @NotNull Response response) {
+                            subscriber = dispatcher.subscribe(text -> {
+                                try {
+                                    JsonNode root = mapper.readTree(text);
+                                    JsonNode queue = root.path("player_state").path("player_queue");
+                                    int currentIndex = queue.path("current_playable_index").asInt(-1);
+
+                                    if (currentIndex < 0) {
+                                        future.completeExceptionally(new YandexMusicException("Нет текущего трека"));
+                                    } else {
+                                        JsonNode track = queue.path("playable_list").get(currentIndex);
+                                        String playableId = track.path("playable_id").asText();
+                                        future.complete(playableId);
+                                    }
+                                } catch (Exception e) {
+                                    future.completeExceptionally(e);
+                                } finally {
+                                    subscriber.close();
+                                    webSocket.close(1000, null);
+                                }
+                            });
                             try {
                                 String jsonPayload = mapper.writeValueAsString(payload);
                                 webSocket.send(jsonPayload);
                             } catch (Exception e) {
+                                subscriber.close();
                                 future.completeExceptionally(e);
                                 webSocket.close(1011, "Serialization Error");
                             }
@@ -59,26 +91,30 @@ public class YnisonHelper {
                         @Override
                         public void onMessage(@NotNull WebSocket webSocket, @NotNull String text) {
                             try {
-                                JsonNode root = mapper.readTree(text);
-                                JsonNode queue = root.path("player_state").path("player_queue");
-                                int currentIndex = queue.path("current_playable_index").asInt(-1);
-
-                                if (currentIndex < 0) {
-                                    future.completeExceptionally(new YandexMusicException("Нет текущего трека"));
-                                } else {
-                                    JsonNode track = queue.path("playable_list").get(currentIndex);
-                                    String playableId = track.path("playable_id").asText();
-                                    future.complete(playableId);
-                                }
+                                subscriber.offer(text);
                             } catch (Exception e) {
+                                subscriber.close();
                                 future.completeExceptionally(e);
-                            } finally {
-                                webSocket.close(1000, null);
+                                webSocket.close(1011, "Dispatch Error");
                             }
                         }
 
+                        @Override
+                        public void onClosing(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
+                            webSocket.close(1000, null);
+                            finishOnClose(subscriber, future, code);
+                        }
+
+                        @Override
+                        public void onClosed(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
+                            finishOnClose(subscriber, future, code);
+                        }
+
                         @Override
                         public void onFailure(@NotNull WebSocket webSocket, @NotNull Throwable throwable, Response response) {
+                            if (subscriber != null) {
+                                subscriber.close();
+                            }
                             future.completeExceptionally(throwable);
                         }
                     });
@@ -87,7 +123,8 @@ public class YnisonHelper {
                 });
     }
 
-    private static CompletableFuture<Map<String, Object>> getRedirect(String token, OkHttpClient client, ObjectMapper mapper, Map<String, Object> wsProto) {
+    private static CompletableFuture<Map<String, Object>> getRedirect(String token, OkHttpClient client, ObjectMapper mapper,
+                                                                      YnisonDispatcher dispatcher, Map<String, Object> wsProto) {
         Request request = new Request.Builder()
                 .url(REDIRECT_WS)
                 .header("Sec-WebSocket-Protocol", "Bearer, v2, " + toJson(mapper, wsProto))
@@ -98,20 +135,50 @@ public class YnisonHelper {
         CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
 
         client.newWebSocket(request, new WebSocketListener() {
+            private YnisonDispatcher.Subscriber subscriber;
+
+            @Override
+            public void onOpen(@NotNull WebSocket webSocket, @NotNull Response response) {
+                subscriber = dispatcher.subscribe(text -> {
+                    try {
+                        Map<String, Object> result = mapper.readValue(text, Map.class);
+                        future.complete(result);
+                    } catch (Exception e) {
+                        future.completeExceptionally(e);
+                    } finally {
+                        subscriber.close();
+                        webSocket.close(1000, null);
+                    }
+                });
+            }
+
             @Override
             public void onMessage(@NotNull WebSocket webSocket, @NotNull String text) {
                 try {
-                    Map<String, Object> result = mapper.readValue(text, Map.class);
-                    future.complete(result);
+                    subscriber.offer(text);
                 } catch (Exception e) {
+                    subscriber.close();
                     future.completeExceptionally(e);
-                } finally {
-                    webSocket.close(1000, null);
+                    webSocket.close(1011, "Dispatch Error");
                 }
             }
 
+            @Override
+            public void onClosing(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
+                webSocket.close(1000, null);
+                finishOnClose(subscriber, future, code);
+            }
+
+            @Override
+            public void onClosed(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
+                finishOnClose(subscriber, future, code);
+            }
+
             @Override
             public void onFailure(@NotNull WebSocket webSocket, @NotNull Throwable throwable, Response response) {
+                if (subscriber != null) {
+                    subscriber.close();
+                }
                 future.completeExceptionally(throwable);
             }
         });
@@ -119,6 +186,17 @@ public class YnisonHelper {
         return future;
     }
 
+    // Уже принятые сообщения обрабатываются до закрытия подписчика, future без ответа завершается ошибкой
+    private static void finishOnClose(YnisonDispatcher.Subscriber subscriber, CompletableFuture<?> future, int code) {
+        Runnable failPending = () -> future.completeExceptionally(
+                new YandexMusicException("Соединение Ynison закрыто до получения ответа, код " + code));
+        if (subscriber == null) {
+            failPending.run();
+        } else {
+            subscriber.finish(failPending);
+        }
+    }
+
     private static String toJson(ObjectMapper mapper, Object obj) {
         try {
             return mapper.writeValueAsString(obj);
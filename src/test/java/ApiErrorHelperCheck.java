@@ -0,0 +1,234 @@
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import org.jetbrains.annotations.NotNull;
+import top.jgroup.YandexMusicClient;
+import top.jgroup.exceptions.ApiErrorType;
+import top.jgroup.exceptions.OAuthTokenAbroadException;
+import top.jgroup.exceptions.YandexMusicApiException;
+import top.jgroup.exceptions.YandexMusicException;
+import top.jgroup.helpers.ApiErrorHelper;
+
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+public class ApiErrorHelperCheck {
+
+    private static final String LEGAL = "Unavailable For Legal Reasons";
+
+    public static void main(String[] args) throws Exception {
+        checkStatusClassification();
+        checkBodyReadOnlyWhenNeeded();
+        checkBodyCap();
+        checkRetryAfter();
+        checkLegalReasons();
+        checkNetworkErrors();
+        System.out.println("✅ ApiErrorHelper: все проверки пройдены");
+    }
+
+    // --- Тип, повтор и стек вызовов определяются по статусу ---
+    private static void checkStatusClassification() {
+        Map<Integer, ApiErrorType> expected = Map.ofEntries(
+                Map.entry(304, ApiErrorType.UNEXPECTED_STATUS),
+                Map.entry(400, ApiErrorType.BAD_REQUEST),
+                Map.entry(401, ApiErrorType.UNAUTHORIZED),
+                Map.entry(403, ApiErrorType.FORBIDDEN),
+                Map.entry(404, ApiErrorType.NOT_FOUND),
+                Map.entry(408, ApiErrorType.TIMEOUT),
+                Map.entry(409, ApiErrorType.CLIENT_ERROR),
+                Map.entry(429, ApiErrorType.RATE_LIMITED),
+                Map.entry(451, ApiErrorType.UNAVAILABLE_FOR_LEGAL_REASONS),
+                Map.entry(500, ApiErrorType.SERVER_ERROR),
+                Map.entry(503, ApiErrorType.SERVER_ERROR));
+        expected.forEach((status, type) -> {
+            YandexMusicApiException e = apiException(response(status, new TrackedBody("")), false);
+            check(e.getType() == type, status + " -> " + e.getType());
+            check(e.getStatusCode() == status, status + ": statusCode = " + e.getStatusCode());
+            check(e.isRetryable() == type.isRetryable(), status + ": retryable = " + e.isRetryable());
+        });
+
+        check(apiException(response(503, new TrackedBody("")), false).isRetryable(), "503 не повторяемая");
+        check(!apiException(response(404, new TrackedBody("")), false).isRetryable(), "404 повторяемая");
+        check(apiException(response(404, new TrackedBody("")), false).getStackTrace().length == 0, "404 собрала стек");
+        check(apiException(response(500, new TrackedBody("")), false).getStackTrace().length > 0, "500 без стека");
+        System.out.println("✅ Классификация по статусу");
+    }
+
+    // --- Тело читается только для 4xx, которые нельзя классифицировать по статусу ---
+    private static void checkBodyReadOnlyWhenNeeded() {
+        for (int status : new int[]{304, 401, 404, 408, 429, 451, 500, 503}) {
+            TrackedBody body = new TrackedBody("{\"error\":{\"name\":\"x\"}}");
+            apiException(response(status, body), false);
+            check(!body.read, status + ": тело прочитано");
+        }
+        for (int status : new int[]{400, 403, 409}) {
+            TrackedBody body = new TrackedBody("{\"error\":{\"name\":\"validate\",\"message\":\"x\"}}");
+            YandexMusicApiException e = apiException(response(status, body), false);
+            check(body.read, status + ": тело не прочитано");
+            check("validate".equals(e.getErrorCode()), status + ": errorCode = " + e.getErrorCode());
+        }
+        YandexMusicApiException textual = apiException(response(400, new TrackedBody("{\"error\":\"session-expired\"}")), false);
+        check("session-expired".equals(textual.getErrorCode()), "строковый error = " + textual.getErrorCode());
+        System.out.println("✅ Тело читается только при необходимости");
+    }
+
+    // --- Из тела читается не больше MAX_ERROR_BODY_BYTES ---
+    private static void checkBodyCap() {
+        String padding = " ".repeat(ApiErrorHelper.MAX_ERROR_BODY_BYTES);
+        YandexMusicApiException beyondCap = apiException(response(403, new TrackedBody(padding + LEGAL)), false);
+        check(beyondCap.getType() == ApiErrorType.FORBIDDEN, "текст за пределом 4 КБ прочитан: " + beyondCap.getType());
+
+        String head = "{\"error\":{\"name\":\"big\"},\"details\":\"";
+        YandexMusicApiException truncated = apiException(response(400, new TrackedBody(head + "x".repeat(100_000) + "\"}")), false);
+        check(truncated.getType() == ApiErrorType.BAD_REQUEST, "большое тело: " + truncated.getType());
+        System.out.println("✅ Ограничение тела 4 КБ (errorCode обрезанного тела = " + truncated.getErrorCode() + ")");
+    }
+
+    // --- Retry-After в секундах и в виде даты ---
+    private static void checkRetryAfter() {
+        YandexMusicApiException seconds = apiException(response(429, new TrackedBody(""), "Retry-After", "7"), false);
+        check(Duration.ofSeconds(7).equals(seconds.getRetryAfter()), "Retry-After 7 = " + seconds.getRetryAfter());
+
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(120));
+        Duration fromDate = apiException(response(503, new TrackedBody(""), "Retry-After", date), false).getRetryAfter();
+        check(fromDate != null && fromDate.getSeconds() >= 100 && fromDate.getSeconds() <= 120, "Retry-After дата = " + fromDate);
+
+        String past = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(60));
+        Duration fromPast = apiException(response(503, new TrackedBody(""), "Retry-After", past), false).getRetryAfter();
+        check(Duration.ZERO.equals(fromPast), "Retry-After в прошлом = " + fromPast);
+
+        check(apiException(response(429, new TrackedBody("")), false).getRetryAfter() == null, "Retry-After без заголовка");
+        check(apiException(response(429, new TrackedBody(""), "Retry-After", "soon"), false).getRetryAfter() == null,
+                "Retry-After с мусором");
+        System.out.println("✅ Retry-After");
+    }
+
+    // --- Unavailable For Legal Reasons: по статусу 451 и по телу 400/403, для OAuth — OAuthTokenAbroadException ---
+    private static void checkLegalReasons() {
+        for (int status : new int[]{400, 403}) {
+            YandexMusicApiException e = apiException(response(status, new TrackedBody(LEGAL)), false);
+            check(e.getType() == ApiErrorType.UNAVAILABLE_FOR_LEGAL_REASONS, status + " с текстом: " + e.getType());
+        }
+        for (int status : new int[]{400, 403, 451}) {
+            RuntimeException e = ApiErrorHelper.toException(response(status, new TrackedBody(LEGAL)), true, "msg");
+            check(e instanceof OAuthTokenAbroadException, status + " OAuth: " + e.getClass().getSimpleName());
+        }
+        RuntimeException notLegal = ApiErrorHelper.toException(response(403, new TrackedBody("{}")), true, "msg");
+        check(notLegal instanceof YandexMusicApiException, "403 OAuth без текста: " + notLegal.getClass().getSimpleName());
+        System.out.println("✅ Unavailable For Legal Reasons");
+    }
+
+    // --- Ошибки сети превращаются в NETWORK, битый JSON — нет ---
+    private static void checkNetworkErrors() throws Exception {
+        // Свободный порт, на котором никто не слушает
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        Throwable refused = failure(port);
+        check(refused instanceof YandexMusicApiException, "отказ соединения: " + refused);
+        YandexMusicApiException network = (YandexMusicApiException) refused;
+        check(network.getType() == ApiErrorType.NETWORK, "тип = " + network.getType());
+        check(network.getStatusCode() == 0, "статус = " + network.getStatusCode());
+        check(network.isRetryable(), "NETWORK не повторяемая");
+        check(network.getCause() instanceof ConnectException, "причина = " + network.getCause());
+        check(network.getStackTrace().length == 0, "NETWORK собрала стек");
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "{не json".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+        try {
+            Throwable malformed = failure(server.getAddress().getPort());
+            check(malformed instanceof YandexMusicException && !(malformed instanceof YandexMusicApiException),
+                    "битый JSON: " + malformed);
+        } finally {
+            server.stop(0);
+        }
+        System.out.println("✅ Ошибки сети");
+    }
+
+    private static Throwable failure(int port) {
+        YandexMusicClient client = new YandexMusicClient("token");
+        client.setApiUrl("http://127.0.0.1:" + port);
+        try {
+            client.getTrackRawInfoAsync("1").join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause();
+        }
+    }
+
+    private static YandexMusicApiException apiException(Response response, boolean isOauth) {
+        RuntimeException e = ApiErrorHelper.toException(response, isOauth, "msg");
+        check(e instanceof YandexMusicApiException, response.code() + ": " + e.getClass().getSimpleName());
+        return (YandexMusicApiException) e;
+    }
+
+    private static Response response(int status, ResponseBody body, String... headers) {
+        Response.Builder builder = new Response.Builder()
+                .request(new Request.Builder().url("https://api.music.yandex.net/tracks/1").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(status)
+                .message("HTTP " + status)
+                .body(body);
+        for (int i = 0; i < headers.length; i += 2) {
+            builder.header(headers[i], headers[i + 1]);
+        }
+        return builder.build();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            System.out.println("❌ " + message);
+            System.exit(1);
+        }
+    }
+
+    // Тело, которое запоминает, обращались ли к нему
+    private static final class TrackedBody extends ResponseBody {
+        private final Buffer buffer = new Buffer();
+        private boolean read;
+
+        TrackedBody(String text) {
+            buffer.writeUtf8(text);
+        }
+
+        @Override
+        public MediaType contentType() {
+            return MediaType.get("application/json");
+        }
+
+        @Override
+        public long contentLength() {
+            return buffer.size();
+        }
+
+        @NotNull
+        @Override
+        public BufferedSource source() {
+            read = true;
+            return buffer;
+        }
+    }
+}
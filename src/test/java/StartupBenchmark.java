@@ -0,0 +1,164 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import top.jgroup.YandexMusicClient;
+import top.jgroup.model.TrackInfo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Холодный старт: создание клиента + первый запрос трека к локальному серверу.
+ * Каждый замер выполняется в отдельной JVM. Режим {@code baseline} повторяет прежнее
+ * поведение клиента (OkHttpClient и ObjectMapper создаются в конструкторе, ответ читается в String),
+ * режим {@code lazy} использует текущий {@link YandexMusicClient}.
+ * <p>
+ * Запуск: {@code java -cp <classpath> StartupBenchmark [число запусков]}
+ */
+public class StartupBenchmark {
+
+    // Ответ /tracks/{id} без лишних полей
+    private static final byte[] TRACK_RESPONSE = """
+            {"result":[{"id":"12345","title":"Title","durationMs":180000,
+            "artists":[{"name":"Artist"}],"coverUri":"avatars.yandex.net/get-music-content/%%"}]}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private static final String[] MODES = {"baseline", "lazy"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("--run")) {
+            runOnce(args[1]);
+            return;
+        }
+
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        long[][][] results = new long[MODES.length][][];
+        for (int m = 0; m < MODES.length; m++) {
+            results[m] = new long[runs][];
+            for (int i = 0; i < runs; i++) {
+                results[m][i] = forkRun(MODES[m]);
+            }
+        }
+
+        String[] metrics = {"Создание клиента", "Первый запрос", "Создание + первый запрос", "JVM start -> конец"};
+        System.out.printf("Медиана из %d запусков, в миллисекундах%n", runs);
+        System.out.printf("%-30s | %10s | %10s | %10s%n", "Метрика", "baseline", "lazy", "разница");
+        System.out.println("---------------------------------------------------------------------");
+        for (int k = 0; k < metrics.length; k++) {
+            double baseline = median(results[0], k);
+            double lazy = median(results[1], k);
+            System.out.printf("%-30s | %10.1f | %10.1f | %+10.1f%n", metrics[k], baseline, lazy, lazy - baseline);
+        }
+    }
+
+    private static void runOnce(String mode) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, TRACK_RESPONSE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(TRACK_RESPONSE);
+            }
+        });
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        long start = System.nanoTime();
+        TrackInfo track;
+        long constructed;
+        if (mode.equals("baseline")) {
+            BaselineClient client = new BaselineClient(url);
+            constructed = System.nanoTime();
+            track = client.getTrackInfoAsync("12345").join();
+        } else {
+            YandexMusicClient client = new YandexMusicClient("token");
+            client.setApiUrl(url);
+            constructed = System.nanoTime();
+            track = client.getTrackInfoAsync("12345").join();
+        }
+        long finished = System.nanoTime();
+        long jvmToEndMs = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        server.stop(0);
+
+        if (!track.id().equals("12345")) {
+            throw new IllegalStateException("Неверный трек: " + track);
+        }
+        System.out.printf("RESULT %d %d %d %d%n",
+                TimeUnit.NANOSECONDS.toMicros(constructed - start),
+                TimeUnit.NANOSECONDS.toMicros(finished - constructed),
+                TimeUnit.NANOSECONDS.toMicros(finished - start),
+                TimeUnit.MILLISECONDS.toMicros(jvmToEndMs));
+        System.exit(0);
+    }
+
+    private static long[] forkRun(String mode) throws IOException, InterruptedException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                "StartupBenchmark", "--run", mode)
+                .redirectErrorStream(true)
+                .start();
+
+        long[] result = null;
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.add(line);
+                if (line.startsWith("RESULT ")) {
+                    result = Arrays.stream(line.substring(7).split(" ")).mapToLong(Long::parseLong).toArray();
+                }
+            }
+        }
+        if (process.waitFor() != 0 || result == null) {
+            throw new IllegalStateException("Запуск " + mode + " завершился ошибкой: " + output);
+        }
+        return result;
+    }
+
+    private static double median(long[][] runs, int metric) {
+        long[] values = Arrays.stream(runs).mapToLong(run -> run[metric]).sorted().toArray();
+        return values[values.length / 2] / 1000.0;
+    }
+
+    // Прежнее поведение клиента: все компоненты создаются в конструкторе
+    private static final class BaselineClient {
+        private final OkHttpClient client;
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final String url;
+
+        BaselineClient(String url) {
+            this.url = url;
+            this.client = new OkHttpClient.Builder().build();
+        }
+
+        CompletableFuture<TrackInfo> getTrackInfoAsync(String trackId) {
+            return CompletableFuture.supplyAsync(() -> {
+                Request request = new Request.Builder()
+                        .url(url + "/tracks/" + trackId)
+                        .header("Authorization", "OAuth token")
+                        .header("Accept", "application/json")
+                        .build();
+                try (Response response = client.newCall(request).execute()) {
+                    JsonNode root = mapper.readTree(response.body().string());
+                    return TrackInfo.fromJson(root.path("result").get(0));
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+    }
+}
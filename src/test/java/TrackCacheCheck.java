@@ -0,0 +1,231 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpServer;
+import top.jgroup.YandexMusicClient;
+import top.jgroup.cache.FileTrackCacheProvider;
+import top.jgroup.cache.InMemoryTrackCacheProvider;
+import top.jgroup.cache.TrackCacheProvider;
+import top.jgroup.helpers.JsonHelper;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class TrackCacheCheck {
+
+    // --- Локальный API: /tracks/{id} отвечает {"result":[{"id":id,...}]} и считает запросы ---
+    private static final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+    private static volatile long delayMs;
+
+    public static void main(String[] args) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/tracks/", exchange -> {
+            String trackId = exchange.getRequestURI().getPath().substring("/tracks/".length());
+            requests.computeIfAbsent(trackId, id -> new AtomicInteger()).incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            byte[] body = ("{\"result\":[{\"id\":\"" + trackId + "\",\"title\":\"T" + trackId + "\"}]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        try {
+            checkCacheFirst(url);
+            checkBatch(url);
+            checkBatchFanOut(url);
+            checkInMemoryBounds();
+            checkDeepCopy(url);
+            checkFileProvider(url);
+        } finally {
+            server.stop(0);
+        }
+        System.out.println("✅ TrackCache: все проверки пройдены");
+        System.exit(0);
+    }
+
+    // --- getTrackRawInfoAsync: сначала кэш, промах идет в API и сохраняется ---
+    private static void checkCacheFirst(String url) {
+        requests.clear();
+        InMemoryTrackCacheProvider cache = new InMemoryTrackCacheProvider();
+        cache.put("1", json("{\"id\":\"1\",\"title\":\"из кэша\"}")).join();
+        YandexMusicClient client = client(url, cache);
+
+        JsonNode hit = client.getTrackRawInfoAsync("1").join();
+        check(hit.path("title").asText().equals("из кэша"), "попадание: " + hit);
+        check(requests.isEmpty(), "попадание ушло в API: " + requests);
+
+        client.getTrackRawInfoAsync("2").join();
+        client.getTrackRawInfoAsync("2").join();
+        check(count("2") == 1, "промах запрошен " + count("2") + " раз");
+        check(cache.size() == 2, "промах не сохранен, size = " + cache.size());
+        System.out.println("✅ Сначала кэш");
+    }
+
+    // --- getTracksRawInfoAsync: попадания, промахи и повторяющиеся ID ---
+    private static void checkBatch(String url) {
+        requests.clear();
+        InMemoryTrackCacheProvider cache = new InMemoryTrackCacheProvider();
+        cache.put("1", json("{\"id\":\"1\"}")).join();
+        YandexMusicClient client = client(url, cache);
+
+        Map<String, JsonNode> tracks = client.getTracksRawInfoAsync(List.of("1", "2", "3", "3", "4", "2")).join();
+        check(List.copyOf(tracks.keySet()).equals(List.of("1", "2", "3", "4")), "порядок: " + tracks.keySet());
+        check(tracks.get("3").path("id").asText().equals("3"), "трек 3: " + tracks.get("3"));
+        check(requests.keySet().equals(Set.of("2", "3", "4")), "запрошены: " + requests.keySet());
+        check(requests.values().stream().allMatch(c -> c.get() == 1), "повторные запросы: " + requests);
+        check(cache.size() == 4, "промахи не сохранены, size = " + cache.size());
+
+        requests.clear();
+        client.getTracksRawInfoAsync(List.of("1", "2", "3", "4")).join();
+        check(requests.isEmpty(), "повторный пакет ушел в API: " + requests);
+        System.out.println("✅ Пакетный запрос");
+    }
+
+    // --- Пакет промахов не запускает больше BATCH_PARALLELISM запросов одновременно ---
+    private static void checkBatchFanOut(String url) {
+        requests.clear();
+        maxInFlight.set(0);
+        delayMs = 30;
+        List<String> trackIds = Stream.iterate(100, i -> i + 1).limit(20).map(String::valueOf).toList();
+        Map<String, JsonNode> tracks = client(url, null).getTracksRawInfoAsync(trackIds).join();
+        delayMs = 0;
+
+        check(tracks.size() == 20, "получено " + tracks.size());
+        check(maxInFlight.get() <= YandexMusicClient.BATCH_PARALLELISM, "одновременно " + maxInFlight.get());
+        check(maxInFlight.get() > 1, "запросы не параллельны");
+        System.out.println("✅ Ограничение параллелизма (" + maxInFlight.get() + ")");
+    }
+
+    // --- InMemoryTrackCacheProvider: LRU и срок жизни ---
+    private static void checkInMemoryBounds() throws InterruptedException {
+        InMemoryTrackCacheProvider lru = new InMemoryTrackCacheProvider(2);
+        lru.put("a", json("{}")).join();
+        lru.put("b", json("{}")).join();
+        lru.get("a").join();
+        lru.put("c", json("{}")).join();
+        check(lru.size() == 2, "LRU size = " + lru.size());
+        check(lru.get("a").join().isPresent(), "LRU вытеснил недавно использованный");
+        check(lru.get("b").join().isEmpty(), "LRU не вытеснил самый старый");
+
+        InMemoryTrackCacheProvider ttl = new InMemoryTrackCacheProvider(10, Duration.ofMillis(100));
+        ttl.put("a", json("{}")).join();
+        check(ttl.get("a").join().isPresent(), "TTL: запись пропала раньше срока");
+        Thread.sleep(150);
+        check(ttl.get("a").join().isEmpty(), "TTL: устаревшая запись возвращена");
+        check(ttl.size() == 0, "TTL: устаревшая запись не удалена");
+        System.out.println("✅ LRU и срок жизни");
+    }
+
+    // --- Изменение узлов вызывающим кодом не меняет кэш ---
+    private static void checkDeepCopy(String url) {
+        InMemoryTrackCacheProvider cache = new InMemoryTrackCacheProvider();
+        ObjectNode stored = (ObjectNode) json("{\"title\":\"исходный\"}");
+        cache.put("1", stored).join();
+        stored.put("title", "изменен после put");
+
+        ObjectNode returned = (ObjectNode) client(url, cache).getTrackRawInfoAsync("1").join();
+        returned.put("title", "изменен после get");
+
+        String title = cache.get("1").join().orElseThrow().path("title").asText();
+        check(title.equals("исходный"), "кэш изменен через узел: " + title);
+        System.out.println("✅ Изоляция узлов");
+    }
+
+    // --- FileTrackCacheProvider: запись, чтение другим экземпляром, срок жизни ---
+    private static void checkFileProvider(String url) throws Exception {
+        Path directory = Files.createTempDirectory("track-cache");
+        ExecutorService io = Executors.newSingleThreadExecutor();
+        try {
+            requests.clear();
+            client(url, new FileTrackCacheProvider(directory, io)).getTrackRawInfoAsync("7:42").join();
+            check(count("7:42") == 1, "трек не запрошен");
+
+            // Другой узел с тем же каталогом
+            requests.clear();
+            FileTrackCacheProvider other = new FileTrackCacheProvider(directory, Duration.ofHours(1), io);
+            JsonNode fromOther = client(url, other).getTrackRawInfoAsync("7:42").join();
+            check(requests.isEmpty(), "второй узел ушел в API: " + requests);
+            check(fromOther.path("title").asText().equals("T7:42"), "прочитано: " + fromOther);
+
+            // Состарим файл: чтение его удаляет
+            Path file;
+            try (Stream<Path> files = Files.list(directory)) {
+                file = files.filter(p -> p.toString().endsWith(".json")).findFirst().orElseThrow();
+            }
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+            check(other.get("7:42").join().isEmpty(), "устаревший файл возвращен");
+            check(!Files.exists(file), "устаревший файл не удален при чтении");
+
+            // purgeExpired удаляет устаревшие файлы, которые никто не читает
+            other.putAll(Map.of("a", json("{}"), "b", json("{}"))).join();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path p : files.toList()) {
+                    Files.setLastModifiedTime(p, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+                }
+            }
+            other.put("c", json("{}")).join();
+            check(other.purgeExpired().join() == 2, "purgeExpired удалил не 2 файла");
+            check(other.get("c").join().isPresent(), "purgeExpired удалил свежий файл");
+            System.out.println("✅ Файловый кэш");
+        } finally {
+            io.shutdown();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    private static YandexMusicClient client(String url, TrackCacheProvider cache) {
+        YandexMusicClient client = new YandexMusicClient("token");
+        client.setApiUrl(url);
+        client.setCacheProvider(cache);
+        return client;
+    }
+
+    private static int count(String trackId) {
+        AtomicInteger count = requests.get(trackId);
+        return count == null ? 0 : count.get();
+    }
+
+    private static JsonNode json(String text) {
+        try {
+            return JsonHelper.TREE_READER.readTree(text);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            System.out.println("❌ " + message);
+            System.exit(1);
+        }
+    }
+}
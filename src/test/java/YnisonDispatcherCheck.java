@@ -0,0 +1,196 @@
+import top.jgroup.helpers.YnisonDispatcher;
+import top.jgroup.helpers.YnisonDispatcher.OverflowPolicy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class YnisonDispatcherCheck {
+    public static void main(String[] args) throws Exception {
+        checkErrorInHandler();
+        checkDropOldest();
+        checkLatest();
+        checkBlock();
+        checkFinish();
+        System.out.println("✅ YnisonDispatcher: все проверки пройдены");
+    }
+
+    // --- Обработчик падает с Error: поток чтения не должен зависнуть в BLOCK ---
+    private static void checkErrorInHandler() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        YnisonDispatcher dispatcher = new YnisonDispatcher(executor, 1, OverflowPolicy.BLOCK);
+
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        YnisonDispatcher.Subscriber subscriber = dispatcher.subscribe(message -> {
+            if (message.equals("m0")) {
+                throw new AssertionError("сбой обработчика (ожидаемо)");
+            }
+            delivered.add(message);
+        });
+
+        Thread reader = offerInThread(subscriber, 5);
+        reader.join(TimeUnit.SECONDS.toMillis(5));
+        shutdown(executor);
+
+        check(!reader.isAlive(), "offer() завис после Error в обработчике");
+        check(delivered.equals(List.of("m1", "m2", "m3", "m4")), "доставлено: " + delivered);
+        check(subscriber.getFailed() == 1, "failed = " + subscriber.getFailed());
+        check(subscriber.getLastFailure() instanceof AssertionError, "lastFailure = " + subscriber.getLastFailure());
+        check(subscriber.getPending() == 0, "pending = " + subscriber.getPending());
+        System.out.println("✅ Error в обработчике");
+    }
+
+    // --- DROP_OLDEST: остаются последние capacity сообщений ---
+    private static void checkDropOldest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Gate gate = new Gate();
+        YnisonDispatcher.Subscriber subscriber = new YnisonDispatcher(executor, 3, OverflowPolicy.DROP_OLDEST)
+                .subscribe(gate::handle);
+
+        subscriber.offer("m0");
+        gate.awaitStarted();
+        for (int i = 1; i < 10; i++) {
+            subscriber.offer("m" + i);
+        }
+        check(subscriber.getPending() == 3, "DROP_OLDEST pending = " + subscriber.getPending());
+        check(subscriber.getDropped() == 6, "DROP_OLDEST dropped = " + subscriber.getDropped());
+
+        Thread.sleep(100);
+        check(subscriber.getLagMillis() >= 100, "DROP_OLDEST lag = " + subscriber.getLagMillis());
+
+        gate.open();
+        shutdown(executor);
+        check(gate.handled.equals(List.of("m0", "m7", "m8", "m9")), "DROP_OLDEST доставлено: " + gate.handled);
+        check(subscriber.getDelivered() == 4, "DROP_OLDEST delivered = " + subscriber.getDelivered());
+        check(subscriber.getLagMillis() == 0, "DROP_OLDEST lag после обработки = " + subscriber.getLagMillis());
+        check(subscriber.getMaxLagMillis() >= 100, "DROP_OLDEST maxLag = " + subscriber.getMaxLagMillis());
+        System.out.println("✅ DROP_OLDEST");
+    }
+
+    // --- LATEST: в буфере остается только последнее состояние ---
+    private static void checkLatest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Gate gate = new Gate();
+        YnisonDispatcher.Subscriber subscriber = new YnisonDispatcher(executor, 8, OverflowPolicy.LATEST)
+                .subscribe(gate::handle);
+
+        subscriber.offer("m0");
+        gate.awaitStarted();
+        for (int i = 1; i < 10; i++) {
+            subscriber.offer("m" + i);
+        }
+        check(subscriber.getPending() == 1, "LATEST pending = " + subscriber.getPending());
+        check(subscriber.getDropped() == 8, "LATEST dropped = " + subscriber.getDropped());
+
+        gate.open();
+        shutdown(executor);
+        check(gate.handled.equals(List.of("m0", "m9")), "LATEST доставлено: " + gate.handled);
+        check(subscriber.getDelivered() == 2, "LATEST delivered = " + subscriber.getDelivered());
+        System.out.println("✅ LATEST");
+    }
+
+    // --- BLOCK: поток чтения ждет, пока обработчик не освободит место ---
+    private static void checkBlock() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Gate gate = new Gate();
+        YnisonDispatcher.Subscriber subscriber = new YnisonDispatcher(executor, 2, OverflowPolicy.BLOCK)
+                .subscribe(gate::handle);
+
+        subscriber.offer("m0");
+        gate.awaitStarted();
+        Thread reader = offerInThread(subscriber, 6);
+        reader.join(200);
+
+        check(reader.isAlive(), "BLOCK: поток чтения не заблокирован");
+        check(subscriber.getPending() == 2, "BLOCK pending = " + subscriber.getPending());
+        check(subscriber.getDropped() == 0, "BLOCK dropped = " + subscriber.getDropped());
+
+        gate.open();
+        reader.join(TimeUnit.SECONDS.toMillis(5));
+        shutdown(executor);
+        check(!reader.isAlive(), "BLOCK: поток чтения не разблокирован");
+        check(gate.handled.equals(List.of("m0", "m0", "m1", "m2", "m3", "m4", "m5")), "BLOCK доставлено: " + gate.handled);
+        check(subscriber.getDelivered() == 7, "BLOCK delivered = " + subscriber.getDelivered());
+        System.out.println("✅ BLOCK");
+    }
+
+    // --- finish(): принятые сообщения обрабатываются, затем подписчик закрывается ---
+    private static void checkFinish() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        YnisonDispatcher dispatcher = new YnisonDispatcher(executor, 4, OverflowPolicy.DROP_OLDEST);
+        Gate gate = new Gate();
+        YnisonDispatcher.Subscriber subscriber = dispatcher.subscribe(gate::handle);
+        AtomicInteger finished = new AtomicInteger();
+
+        subscriber.offer("m0");
+        gate.awaitStarted();
+        subscriber.offer("m1");
+        subscriber.finish(finished::incrementAndGet);
+        check(finished.get() == 0, "finish() сработал до обработки сообщений");
+
+        gate.open();
+        shutdown(executor);
+        check(gate.handled.equals(List.of("m0", "m1")), "finish доставлено: " + gate.handled);
+        check(finished.get() == 1, "finish callback = " + finished.get());
+        check(dispatcher.getSubscribers().isEmpty(), "подписчик не удален после finish()");
+
+        // Без сообщений подписчик закрывается сразу
+        YnisonDispatcher.Subscriber idle = dispatcher.subscribe(message -> { });
+        idle.finish(finished::incrementAndGet);
+        idle.finish(finished::incrementAndGet);
+        check(finished.get() == 2, "finish без сообщений = " + finished.get());
+        check(dispatcher.getSubscribers().isEmpty(), "пустой подписчик не удален после finish()");
+        System.out.println("✅ finish()");
+    }
+
+    private static Thread offerInThread(YnisonDispatcher.Subscriber subscriber, int count) {
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                subscriber.offer("m" + i);
+            }
+        });
+        reader.start();
+        return reader;
+    }
+
+    private static void shutdown(ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+        check(executor.awaitTermination(5, TimeUnit.SECONDS), "executor не завершился");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            System.out.println("❌ " + message);
+            System.exit(1);
+        }
+    }
+
+    // Обработчик, который держит первое сообщение до open()
+    private static final class Gate {
+        final List<String> handled = new CopyOnWriteArrayList<>();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch opened = new CountDownLatch(1);
+
+        void handle(String message) {
+            started.countDown();
+            try {
+                opened.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handled.add(message);
+        }
+
+        void awaitStarted() throws InterruptedException {
+            check(started.await(5, TimeUnit.SECONDS), "обработчик не запустился");
+        }
+
+        void open() {
+            opened.countDown();
+        }
+    }
+}